@@ -0,0 +1,203 @@
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+//busca la mejor combinacion de hilos, division en tiles y motor (kernel) para este equipo
+//prueba cada combinacion sobre una region de muestra de la imagen y guarda la ganadora
+//en un archivo de perfil, separada por equipo y por tamaño de imagen
+public class Autotuner {
+
+    // Archivo donde se guardan las configuraciones ganadoras
+    public static final String ARCHIVO_PERFIL = "autotune.properties";
+
+    private static final int LADO_MUESTRA = 512; // region de muestra de hasta 512x512
+    private static final int REPETICIONES = 3;   // se toma el mejor tiempo de estas pasadas
+
+    // {altoTile, anchoTile}; 0 en altoTile = una franja por hilo, 0 en anchoTile = todo el ancho
+    private static final int[][] TILES_CANDIDATOS = {
+            {0, 0},
+            {16, 0},
+            {64, 0},
+            {64, 64},
+            {128, 128},
+            {256, 256}
+    };
+
+    //configuracion ganadora para un equipo y tamaño de imagen
+    public static class Configuracion {
+        public final int numHilos;
+        public final int altoTile;
+        public final int anchoTile;
+        public final String kernel; // nombre del motor que calcula cada tile (ver Motores.KERNELS)
+
+        public Configuracion(int numHilos, int altoTile, int anchoTile, String kernel) {
+            this.numHilos = numHilos;
+            this.altoTile = altoTile;
+            this.anchoTile = anchoTile;
+            this.kernel = kernel;
+        }
+
+        public void aplicar(ProcesarParalelo procesador) {
+            procesador.numHilos = numHilos;
+            procesador.setTiles(altoTile, anchoTile);
+            procesador.setMotor(Motores.crear(kernel, numHilos));
+        }
+
+        @Override
+        public String toString() {
+            return "hilos=" + numHilos + ", tile=" + altoTile + "x" + anchoTile + ", kernel=" + kernel;
+        }
+    }
+
+    //prueba todas las combinaciones sobre una muestra de la imagen y devuelve la mas rapida
+    public static Configuracion calibrar(BufferedImage imagen, Operacion operacion, ElementoEstructurante elemento) {
+        BufferedImage muestra = extraerMuestra(imagen);
+        System.out.println("\n=== Autotune ===");
+        System.out.println("Muestra: " + muestra.getWidth() + "x" + muestra.getHeight() + " píxeles");
+
+        Configuracion mejor = null;
+        long mejorTiempo = Long.MAX_VALUE;
+
+        for (int hilos : hilosCandidatos()) {
+            for (int[] tile : TILES_CANDIDATOS) {
+                for (String kernel : Motores.KERNELS) {
+                    Configuracion candidata = new Configuracion(hilos, tile[0], tile[1], kernel);
+                    long tiempo = medir(muestra, candidata, operacion, elemento);
+
+                    System.out.println("  " + candidata + " -> " + String.format("%.3f", tiempo / 1e6) + " ms");
+
+                    if (tiempo < mejorTiempo) {
+                        mejorTiempo = tiempo;
+                        mejor = candidata;
+                    }
+                }
+            }
+        }
+
+        System.out.println("Mejor configuración: " + mejor);
+        return mejor;
+    }
+
+    //mide el mejor tiempo (en nanosegundos) de una configuracion, despues de una pasada de calentamiento
+    private static long medir(BufferedImage muestra, Configuracion configuracion,
+                              Operacion operacion, ElementoEstructurante elemento) {
+        ProcesarParalelo procesador = new ProcesarParalelo(muestra, configuracion.numHilos);
+        procesador.setSilencioso(true);
+        configuracion.aplicar(procesador);
+
+        procesador.procesarParalelo(operacion, elemento); // calentamiento
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            procesador.procesarParalelo(operacion, elemento);
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        return mejor;
+    }
+
+    //region central de la imagen, copiada para no compartir el raster con la original
+    private static BufferedImage extraerMuestra(BufferedImage imagen) {
+        int ancho = Math.min(LADO_MUESTRA, imagen.getWidth());
+        int alto = Math.min(LADO_MUESTRA, imagen.getHeight());
+        int x0 = (imagen.getWidth() - ancho) / 2;
+        int y0 = (imagen.getHeight() - alto) / 2;
+
+        BufferedImage muestra = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+        muestra.setRGB(0, 0, ancho, alto, imagen.getRGB(x0, y0, ancho, alto, null, 0, ancho), 0, ancho);
+        return muestra;
+    }
+
+    //potencias de 2 hasta los procesadores disponibles, mas la mitad y el total
+    private static List<Integer> hilosCandidatos() {
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        List<Integer> candidatos = new ArrayList<>();
+        for (int h = 1; h < procesadores; h *= 2) {
+            candidatos.add(h);
+        }
+        if (procesadores / 2 > 0 && !candidatos.contains(procesadores / 2)) {
+            candidatos.add(procesadores / 2);
+        }
+        candidatos.add(procesadores);
+        return candidatos;
+    }
+
+    //carga la configuracion guardada para este equipo y tamaño de imagen, o null si no hay
+    public static Configuracion cargar(int ancho, int alto) {
+        Properties perfil = leerPerfil();
+        String clave = clave(ancho, alto);
+        if (!perfil.containsKey(clave + ".hilos")) {
+            return null;
+        }
+
+        try {
+            Configuracion configuracion = new Configuracion(
+                    Integer.parseInt(perfil.getProperty(clave + ".hilos")),
+                    Integer.parseInt(perfil.getProperty(clave + ".altoTile")),
+                    Integer.parseInt(perfil.getProperty(clave + ".anchoTile")),
+                    perfil.getProperty(clave + ".kernel"));
+            // Solo los kernels de un hilo tienen sentido dentro de cada tile
+            if (!Arrays.asList(Motores.KERNELS).contains(configuracion.kernel)) {
+                throw new IllegalArgumentException("kernel no válido: " + configuracion.kernel);
+            }
+            return configuracion;
+        } catch (RuntimeException e) {
+            System.err.println("Perfil de autotune inválido para " + clave + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    //guarda la configuracion en el perfil, sin borrar las de otros equipos o tamaños
+    public static void guardar(int ancho, int alto, Configuracion configuracion) throws IOException {
+        Properties perfil = leerPerfil();
+        String clave = clave(ancho, alto);
+        perfil.setProperty(clave + ".hilos", String.valueOf(configuracion.numHilos));
+        perfil.setProperty(clave + ".altoTile", String.valueOf(configuracion.altoTile));
+        perfil.setProperty(clave + ".anchoTile", String.valueOf(configuracion.anchoTile));
+        perfil.setProperty(clave + ".kernel", configuracion.kernel);
+
+        try (Writer escritor = new FileWriter(ARCHIVO_PERFIL)) {
+            perfil.store(escritor, "Perfil de autotune (equipo.procesadores.tamaño)");
+        }
+        System.out.println("Perfil guardado en " + ARCHIVO_PERFIL + " (" + clave + ")");
+    }
+
+    private static Properties leerPerfil() {
+        Properties perfil = new Properties();
+        File archivo = new File(ARCHIVO_PERFIL);
+        if (archivo.exists()) {
+            try (Reader lector = new FileReader(archivo)) {
+                perfil.load(lector);
+            } catch (IOException e) {
+                System.err.println("No se pudo leer " + ARCHIVO_PERFIL + ": " + e.getMessage());
+            }
+        }
+        return perfil;
+    }
+
+    //clave del perfil: nombre del equipo, procesadores disponibles y tamaño en potencia de 2 de pixeles
+    //los procesadores van en la clave porque un contenedor puede limitar los del mismo equipo
+    private static String clave(int ancho, int alto) {
+        long pixeles = Math.max(1L, (long) ancho * alto);
+        int grupoTamano = 63 - Long.numberOfLeadingZeros(pixeles);
+        return nombreEquipo() + "." + Runtime.getRuntime().availableProcessors() + "cpu.px2e" + grupoTamano;
+    }
+
+    private static String nombreEquipo() {
+        String nombre;
+        try {
+            nombre = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            nombre = System.getenv().getOrDefault("HOSTNAME", "desconocido");
+        }
+        return nombre.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+}
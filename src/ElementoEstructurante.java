@@ -9,6 +9,14 @@ public class ElementoEstructurante {
         inicializarElemento(caso);
     }
 
+    //elemento con una forma cualquiera (caso 0), lo usa el verificador para probar formas aleatorias
+    public ElementoEstructurante(int[][] matriz, int centroX, int centroY) {
+        this.caso = 0;
+        this.matriz = matriz;
+        this.centroX = centroX;
+        this.centroY = centroY;
+    }
+
     private void inicializarElemento(int caso) {
         switch (caso) {
             case 1: // Cruz
@@ -113,6 +121,43 @@ public class ElementoEstructurante {
         return centroY;
     }
 
+    //elemento reflejado respecto a su centro (se giran las filas y columnas de la matriz)
+    //la dilatacion toma el maximo de f(p+b), asi que la apertura es la erosion con el elemento
+    //seguida de la dilatacion con el reflejado
+    public ElementoEstructurante reflejado() {
+        int alto = getAlto();
+        int ancho = getAncho();
+        int[][] reflejada = new int[alto][ancho];
+        for (int y = 0; y < alto; y++) {
+            for (int x = 0; x < ancho; x++) {
+                reflejada[alto - 1 - y][ancho - 1 - x] = matriz[y][x];
+            }
+        }
+        return new ElementoEstructurante(reflejada, ancho - 1 - centroX, alto - 1 - centroY);
+    }
+
+    //desplazamientos {dx, dy} de las posiciones activas respecto al centro, fila por fila
+    public int[][] getDesplazamientos() {
+        int total = 0;
+        for (int[] fila : matriz) {
+            for (int valor : fila) {
+                if (valor == 1) total++;
+            }
+        }
+        int[] dx = new int[total];
+        int[] dy = new int[total];
+        int k = 0;
+        for (int y = 0; y < matriz.length; y++) {
+            for (int x = 0; x < matriz[0].length; x++) {
+                if (matriz[y][x] == 1) {
+                    dx[k] = x - centroX;
+                    dy[k++] = y - centroY;
+                }
+            }
+        }
+        return new int[][] {dx, dy};
+    }
+
     public boolean estaActivo(int y, int x) {
         if (y >= 0 && y < matriz.length && x >= 0 && x < matriz[0].length) {
             return matriz[y][x] == 1;
@@ -122,6 +167,7 @@ public class ElementoEstructurante {
 
     public String getNombreCaso() {
         switch (caso) {
+            case 0: return "Personalizado";
             case 1: return "Cruz";
             case 2: return "L invertida hacia abajo";
             case 3: return "L invertida";
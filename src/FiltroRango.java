@@ -0,0 +1,114 @@
+import java.util.Arrays;
+
+//filtros de rango (mediana y percentil) sobre la forma del elemento estructurante
+//la erosion es el percentil 0 y la dilatacion el percentil 100; los pixeles fuera de la imagen
+//cuentan como negro igual que en los motores de erosion y dilatacion, asi los extremos coinciden con ellas
+//en vez de ordenar la vecindad de cada pixel se usa un histograma por canal que se desliza por la fila
+//(estilo Huang): al avanzar un pixel solo se quitan los que salen por la izquierda y se agregan los
+//que entran por la derecha, y el valor del rango se sigue con un puntero que se mueve poco a poco
+public class FiltroRango {
+
+    //procesa el bloque {x0, y0, x1, y1} de la imagen y escribe el resultado en destino
+    public static void procesarBloque(int[] origen, int[] destino, int ancho, int alto, int[] bloque,
+                                      ElementoEstructurante elemento, int percentil) {
+        Ventana ventana = new Ventana(elemento);
+        int rango = (percentil * (ventana.dx.length - 1) + 50) / 100; // posicion dentro de la vecindad ordenada
+
+        int[][] histograma = new int[3][256];
+        int[] nivel = new int[3];   // valor candidato de cada canal
+        int[] menores = new int[3]; // cuantos valores de la ventana son menores que nivel
+
+        for (int y = bloque[1]; y < bloque[3]; y++) {
+            // Al inicio de cada fila se llena el histograma con la ventana completa
+            for (int c = 0; c < 3; c++) {
+                Arrays.fill(histograma[c], 0);
+                nivel[c] = 0;
+                menores[c] = 0;
+            }
+            for (int i = 0; i < ventana.dx.length; i++) {
+                agregar(histograma, nivel, menores,
+                        Pixeles.leer(origen, ancho, alto, bloque[0] + ventana.dx[i], y + ventana.dy[i]), 1);
+            }
+
+            for (int x = bloque[0]; x < bloque[2]; x++) {
+                if (x > bloque[0]) {
+                    // Deslizar la ventana una columna a la derecha
+                    for (int i = 0; i < ventana.salenX.length; i++) {
+                        agregar(histograma, nivel, menores,
+                                Pixeles.leer(origen, ancho, alto, x - 1 + ventana.salenX[i], y + ventana.salenY[i]), -1);
+                    }
+                    for (int i = 0; i < ventana.entranX.length; i++) {
+                        agregar(histograma, nivel, menores,
+                                Pixeles.leer(origen, ancho, alto, x + ventana.entranX[i], y + ventana.entranY[i]), 1);
+                    }
+                }
+
+                int r = buscarRango(histograma[0], nivel, menores, 0, rango);
+                int g = buscarRango(histograma[1], nivel, menores, 1, rango);
+                int b = buscarRango(histograma[2], nivel, menores, 2, rango);
+                destino[y * ancho + x] = (r << 16) | (g << 8) | b;
+            }
+        }
+    }
+
+    //suma (cantidad = 1) o quita (cantidad = -1) un pixel de los histogramas de los tres canales
+    private static void agregar(int[][] histograma, int[] nivel, int[] menores, int rgb, int cantidad) {
+        for (int c = 0; c < 3; c++) {
+            int valor = (rgb >> (16 - c * 8)) & 0xFF;
+            histograma[c][valor] += cantidad;
+            if (valor < nivel[c]) {
+                menores[c] += cantidad;
+            }
+        }
+    }
+
+    //mueve el puntero del canal hasta el valor que ocupa la posicion rango y lo devuelve
+    private static int buscarRango(int[] histograma, int[] nivel, int[] menores, int c, int rango) {
+        while (menores[c] > rango) {
+            nivel[c]--;
+            menores[c] -= histograma[nivel[c]];
+        }
+        while (menores[c] + histograma[nivel[c]] <= rango) {
+            menores[c] += histograma[nivel[c]];
+            nivel[c]++;
+        }
+        return nivel[c];
+    }
+
+    //desplazamientos del elemento y los que cambian al mover la ventana una columna a la derecha
+    private static class Ventana {
+        final int[] dx, dy;           // todas las posiciones activas
+        final int[] salenX, salenY;   // activas cuyo vecino izquierdo no es activo
+        final int[] entranX, entranY; // activas cuyo vecino derecho no es activo
+
+        Ventana(ElementoEstructurante elemento) {
+            int[][] desplazamientos = elemento.getDesplazamientos();
+            dx = desplazamientos[0];
+            dy = desplazamientos[1];
+            int cx = elemento.getCentroX();
+            int cy = elemento.getCentroY();
+
+            int totalSalen = 0, totalEntran = 0;
+            for (int k = 0; k < dx.length; k++) {
+                if (!elemento.estaActivo(dy[k] + cy, dx[k] + cx - 1)) totalSalen++;
+                if (!elemento.estaActivo(dy[k] + cy, dx[k] + cx + 1)) totalEntran++;
+            }
+
+            salenX = new int[totalSalen];
+            salenY = new int[totalSalen];
+            entranX = new int[totalEntran];
+            entranY = new int[totalEntran];
+            int s = 0, e = 0;
+            for (int k = 0; k < dx.length; k++) {
+                if (!elemento.estaActivo(dy[k] + cy, dx[k] + cx - 1)) {
+                    salenX[s] = dx[k];
+                    salenY[s++] = dy[k];
+                }
+                if (!elemento.estaActivo(dy[k] + cy, dx[k] + cx + 1)) {
+                    entranX[e] = dx[k];
+                    entranY[e++] = dy[k];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+//granulometria: aperturas con elementos de tamaño 1..K y el volumen que se pierde en cada paso (espectro de patrones)
+//el elemento de tamaño n es el elemento base dilatado consigo mismo n veces, asi la erosion de tamaño n
+//es la erosion de tamaño n-1 erosionada una vez mas con el elemento base y no hay que empezar de cero
+//la apertura de tamaño n es esa erosion dilatada con el elemento de tamaño n reflejado
+//(la dilatacion toma el maximo de f(p+b); sin reflejar, los elementos asimetricos aclararian la imagen)
+//si el elemento base es un rectangulo (o una linea) el de tamaño n tambien lo es, y la dilatacion se hace de una vez
+//con un maximo deslizante (van Herk/Gil-Werman) que cuesta lo mismo para cualquier n, asi K tamaños son ~2K pasadas
+//con las otras formas (cruz, L, diagonal) el elemento de tamaño n es un rombo, un triangulo o un cuadrado
+//salteado, que no se descomponen en lineas, y la dilatacion sigue siendo n pasos con el elemento base
+//reflejado: ese lado crece como K(K+1)/2 pasadas
+//solo se mantienen en memoria la erosion actual y la apertura actual; las imagenes de cada tamaño
+//se escriben a disco solo si se pide
+public class Granulometria {
+
+    //calcula la granulometria, escribe el espectro en archivoCsv y devuelve el tiempo en ms
+    //motor es el del procesador (con su reparto en hilos, si es paralelo) y calcula cada erosion y dilatacion
+    //si prefijoImagenes no es null se guarda la apertura de cada tamaño como <prefijo>_<n>.png
+    public static long procesar(BufferedImage imagen, ElementoEstructurante elemento, int tamanoMaximo,
+                                MotorMorfologia motor, String archivoCsv, String prefijoImagenes) throws IOException {
+        if (tamanoMaximo < 0) {
+            throw new IllegalArgumentException("El tamaño máximo de la granulometría no puede ser negativo");
+        }
+        System.out.println("\n=== Granulometría ===");
+        System.out.println("Elemento: Caso " + elemento.getCaso() + " - " + elemento.getNombreCaso());
+        System.out.println("Tamaños: 1 a " + tamanoMaximo + ", motor: " + motor.getNombre());
+
+        long tiempoInicio = System.currentTimeMillis();
+
+        int ancho = imagen.getWidth();
+        int alto = imagen.getHeight();
+
+        ElementoEstructurante reflejado = elemento.reflejado();
+        boolean rectangulo = esRectangulo(elemento);
+
+        int[] erosion = imagen.getRGB(0, 0, ancho, alto, null, 0, ancho);
+        long[][] volumenes = new long[tamanoMaximo + 1][];
+        volumenes[0] = volumen(erosion); // tamaño 0: la imagen original
+
+        for (int n = 1; n <= tamanoMaximo; n++) {
+            // Cadena de erosiones: solo un paso con el elemento base por tamaño
+            erosion = motor.aplicar(erosion, ancho, alto, Operacion.EROSION, elemento);
+
+            int[] apertura;
+            if (rectangulo) {
+                // El elemento de tamaño n reflejado cubre dx en [-n*(ancho-1-cx), n*cx] y dy en [-n*(alto-1-cy), n*cy]
+                apertura = dilatarRectangulo(erosion, ancho, alto, motor,
+                        -n * (elemento.getAncho() - 1 - elemento.getCentroX()), n * elemento.getCentroX(),
+                        -n * (elemento.getAlto() - 1 - elemento.getCentroY()), n * elemento.getCentroY());
+            } else {
+                apertura = erosion;
+                for (int i = 0; i < n; i++) {
+                    apertura = motor.aplicar(apertura, ancho, alto, Operacion.DILATACION, reflejado);
+                }
+            }
+            volumenes[n] = volumen(apertura);
+
+            if (prefijoImagenes != null) {
+                BufferedImage salida = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
+                salida.setRGB(0, 0, ancho, alto, apertura, 0, ancho);
+                ImageIO.write(salida, "PNG", new File(prefijoImagenes + "_" + n + ".png"));
+            }
+            System.out.println("Tamaño " + n + " listo");
+        }
+
+        long tiempoTotal = System.currentTimeMillis() - tiempoInicio;
+
+        guardarCsv(volumenes, archivoCsv);
+        System.out.println("Tiempo de granulometría: " + tiempoTotal + " ms");
+
+        return tiempoTotal;
+    }
+
+    //true si todas las posiciones de la matriz del elemento estan activas
+    private static boolean esRectangulo(ElementoEstructurante elemento) {
+        for (int[] fila : elemento.getMatriz()) {
+            for (int valor : fila) {
+                if (valor != 1) return false;
+            }
+        }
+        return true;
+    }
+
+    //dilatacion con el rectangulo de desplazamientos [dxMin, dxMax] x [dyMin, dyMax]
+    //si el motor es paralelo se usa su mismo reparto en franjas o tiles
+    private static int[] dilatarRectangulo(int[] origen, int ancho, int alto, MotorMorfologia motor,
+                                           int dxMin, int dxMax, int dyMin, int dyMax) {
+        int[] destino = new int[ancho * alto];
+        int[] imagen = {0, 0, ancho, alto};
+        if (motor instanceof MotorParalelo) {
+            ((MotorParalelo) motor).ejecutar(imagen, bloque ->
+                    maximoRectangulo(origen, destino, ancho, alto, bloque, dxMin, dxMax, dyMin, dyMax));
+        } else {
+            maximoRectangulo(origen, destino, ancho, alto, imagen, dxMin, dxMax, dyMin, dyMax);
+        }
+        return destino;
+    }
+
+    //maximo por canal sobre el rectangulo en el bloque {x0, y0, x1, y1}: primero por filas y luego por columnas
+    //las filas se calculan tambien por encima y por debajo del bloque, lo que alcanza la ventana vertical
+    private static void maximoRectangulo(int[] origen, int[] destino, int ancho, int alto, int[] bloque,
+                                         int dxMin, int dxMax, int dyMin, int dyMax) {
+        int anchoBloque = bloque[2] - bloque[0];
+        int altoBloque = bloque[3] - bloque[1];
+        int ventanaX = dxMax - dxMin + 1;
+        int ventanaY = dyMax - dyMin + 1;
+        int filaInicio = bloque[1] + dyMin;
+        int altoFilas = altoBloque + ventanaY - 1;
+
+        int largo = Math.max(anchoBloque + ventanaX - 1, altoFilas);
+        int[] linea = new int[largo];
+        int[] adelante = new int[largo];
+        int[] atras = new int[largo];
+        int[] salida = new int[Math.max(anchoBloque, altoBloque)];
+        int[] filas = new int[altoFilas * anchoBloque]; // las filas fuera de la imagen quedan en negro
+
+        // Pasada horizontal
+        for (int f = 0; f < altoFilas; f++) {
+            int y = filaInicio + f;
+            if (y < 0 || y >= alto) continue;
+            for (int j = 0; j < anchoBloque + ventanaX - 1; j++) {
+                int x = bloque[0] + dxMin + j;
+                linea[j] = Pixeles.leer(origen, ancho, alto, x, y);
+            }
+            maximoDeslizante(linea, anchoBloque, ventanaX, adelante, atras, salida);
+            System.arraycopy(salida, 0, filas, f * anchoBloque, anchoBloque);
+        }
+
+        // Pasada vertical sobre el resultado de la horizontal
+        for (int c = 0; c < anchoBloque; c++) {
+            for (int f = 0; f < altoFilas; f++) {
+                linea[f] = filas[f * anchoBloque + c];
+            }
+            maximoDeslizante(linea, altoBloque, ventanaY, adelante, atras, salida);
+            for (int f = 0; f < altoBloque; f++) {
+                destino[(bloque[1] + f) * ancho + bloque[0] + c] = salida[f];
+            }
+        }
+    }
+
+    //maximo por canal de linea[i .. i + ventana - 1] para cada i en [0, cantidad) (van Herk/Gil-Werman)
+    //la linea se parte en tramos de largo ventana; adelante acumula el maximo desde el inicio de cada tramo
+    //y atras hasta su final, y como cada ventana toca a lo sumo dos tramos su maximo sale con una comparacion
+    private static void maximoDeslizante(int[] linea, int cantidad, int ventana,
+                                         int[] adelante, int[] atras, int[] salida) {
+        if (ventana == 1) {
+            System.arraycopy(linea, 0, salida, 0, cantidad);
+            return;
+        }
+        int largo = cantidad + ventana - 1;
+        for (int j = 0; j < largo; j++) {
+            adelante[j] = (j % ventana == 0) ? linea[j] : maximoRGB(adelante[j - 1], linea[j]);
+        }
+        for (int j = largo - 1; j >= 0; j--) {
+            atras[j] = (j % ventana == ventana - 1 || j == largo - 1) ? linea[j] : maximoRGB(atras[j + 1], linea[j]);
+        }
+        for (int i = 0; i < cantidad; i++) {
+            salida[i] = maximoRGB(atras[i], adelante[i + ventana - 1]);
+        }
+    }
+
+    private static int maximoRGB(int a, int b) {
+        return Math.max(a & 0xFF0000, b & 0xFF0000) | Math.max(a & 0xFF00, b & 0xFF00) | Math.max(a & 0xFF, b & 0xFF);
+    }
+
+    //suma de cada canal {R, G, B} sobre toda la imagen
+    private static long[] volumen(int[] pixeles) {
+        long[] suma = new long[3];
+        for (int rgb : pixeles) {
+            suma[0] += (rgb >> 16) & 0xFF;
+            suma[1] += (rgb >> 8) & 0xFF;
+            suma[2] += rgb & 0xFF;
+        }
+        return suma;
+    }
+
+    //una fila por tamaño: volumen de la apertura y volumen perdido respecto al tamaño anterior
+    private static void guardarCsv(long[][] volumenes, String archivoCsv) throws IOException {
+        try (PrintWriter salida = new PrintWriter(archivoCsv)) {
+            salida.println("tamano,volumen_r,volumen_g,volumen_b,espectro_r,espectro_g,espectro_b");
+            for (int n = 0; n < volumenes.length; n++) {
+                long[] anterior = (n == 0) ? volumenes[0] : volumenes[n - 1];
+                salida.println(n + ","
+                        + volumenes[n][0] + "," + volumenes[n][1] + "," + volumenes[n][2] + ","
+                        + (anterior[0] - volumenes[n][0]) + ","
+                        + (anterior[1] - volumenes[n][1]) + ","
+                        + (anterior[2] - volumenes[n][2]));
+            }
+        }
+        System.out.println("Espectro de patrones guardado: " + archivoCsv);
+    }
+}
@@ -1,5 +1,7 @@
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 public class Main {
 
@@ -11,6 +13,89 @@ public class Main {
         int caso = 1;
         int numHilos = Runtime.getRuntime().availableProcessors();
         String modo = "ambos";
+
+        // Permitir configuración por argumentos
+        if (args.length >= 1) operacion = Operacion.valueOf(args[0].toUpperCase());
+        if (args.length >= 2) caso = Integer.parseInt(args[1]);
+        // Si no se indican los hilos, o se pasa "auto" o 0, se usa el perfil de autotune (si existe)
+        boolean hilosExplicitos = args.length >= 3 && !args[2].equalsIgnoreCase("auto") && !args[2].equals("0");
+        if (hilosExplicitos) numHilos = Integer.parseInt(args[2]);
+        if (args.length >= 4) modo = args[3].toLowerCase();
+
+        // Opciones extra con formato clave=valor (por ejemplo h=30)
+        Map<String, String> opciones = new HashMap<>();
+        for (int i = 4; i < args.length; i++) {
+            String[] partes = args[i].split("=", 2);
+            if (partes.length != 2) {
+                System.err.println("Opción no válida: " + args[i] + " (use clave=valor)");
+                mostrarAyuda();
+                return;
+            }
+            opciones.put(partes[0].toLowerCase(), partes[1]);
+        }
+        int alturaH = Integer.parseInt(opciones.getOrDefault("h", "20"));
+        int percentil = Integer.parseInt(opciones.getOrDefault("p", "50"));
+        if (percentil < 0 || percentil > 100) {
+            System.err.println("p debe estar entre 0 y 100");
+            return;
+        }
+        int tamanoMaximo = Integer.parseInt(opciones.getOrDefault("k", "10"));
+        if (tamanoMaximo < 0) {
+            System.err.println("k no puede ser negativo");
+            return;
+        }
+        boolean guardarAperturas = opciones.getOrDefault("imagenes", "no").equalsIgnoreCase("si");
+        OrdenColor ordenColor;
+        try {
+            ordenColor = OrdenColor.desde(opciones.getOrDefault("orden", "canal"));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+        // Motor de erosion/dilatacion elegido por nombre (null = el de cada modo por defecto)
+        String nombreMotor = opciones.get("motor");
+        if (nombreMotor != null) {
+            try {
+                Motores.crear(nombreMotor, numHilos);
+            } catch (IllegalArgumentException e) {
+                System.err.println(e.getMessage());
+                Motores.mostrarMotoresDisponibles();
+                return;
+            }
+        }
+
+        // Validar modo
+        if (!modo.equals("secuencial") && !modo.equals("paralelo") && !modo.equals("ambos")
+                && !modo.equals("autotune") && !modo.equals("verificar")) {
+            System.err.println("Modo no válido. Use: secuencial, paralelo, ambos, autotune o verificar");
+            mostrarAyuda();
+            return;
+        }
+        if (modo.equals("autotune") && operacion != Operacion.EROSION && operacion != Operacion.DILATACION) {
+            System.err.println("El autotune solo se aplica a EROSION y DILATACION");
+            return;
+        }
+        // Reconstruccion, filtros de rango, orden de color y autotune no pasan por el motor elegido
+        boolean usaMotor = operacion == Operacion.GRANULOMETRIA
+                || ((operacion == Operacion.EROSION || operacion == Operacion.DILATACION) && ordenColor == null);
+        if (nombreMotor != null && !modo.equals("verificar") && (!usaMotor || modo.equals("autotune"))) {
+            System.err.println("motor= solo se aplica a EROSION/DILATACION con orden=canal, a GRANULOMETRIA"
+                    + " y al modo verificar");
+            return;
+        }
+
+        // La verificacion usa imagenes aleatorias, no necesita IMGPR.png
+        if (modo.equals("verificar")) {
+            MotorMorfologia candidato = Motores.crear(
+                    (nombreMotor != null) ? nombreMotor : "desplazamientos", numHilos);
+            int pruebas = Integer.parseInt(opciones.getOrDefault("pruebas", "50"));
+            long semilla = Long.parseLong(opciones.getOrDefault("semilla", "1"));
+            boolean correcto = Verificador.verificar(candidato, pruebas, semilla);
+            System.out.println(correcto ? "Resultado: el motor coincide con la referencia"
+                    : "Resultado: el motor NO coincide con la referencia");
+            return;
+        }
+
         // Verificar que la imagen existe
         File archivoImagen = new File(rutaImagen);
         if (!archivoImagen.exists()) {
@@ -21,26 +106,30 @@ public class Main {
             System.err.println("  java GeneradorImagenesAleatorias 5000 5000 mixto");
             return; // ← SE DETIENE AQUÍ
         }
-        // Permitir configuración por argumentos
-        if (args.length >= 1) operacion = Operacion.valueOf(args[0].toUpperCase());
-        if (args.length >= 2) caso = Integer.parseInt(args[1]);
-        if (args.length >= 3) numHilos = Integer.parseInt(args[2]);
-        if (args.length >= 4) modo = args[3].toLowerCase();
-
-        // Validar modo
-        if (!modo.equals("secuencial") && !modo.equals("paralelo") && !modo.equals("ambos")) {
-            System.err.println("Modo no válido. Use: secuencial, paralelo, o ambos");
-            mostrarAyuda();
-            return;
-        }
 
         System.out.println("Configuración:");
         System.out.println("  Imagen: " + rutaImagen);
         System.out.println("  Operación: " + operacion);
         System.out.println("  Caso elemento: " + caso);
+        if (operacion == Operacion.H_MAXIMOS) {
+            System.out.println("  h: " + alturaH);
+        }
+        if (operacion == Operacion.PERCENTIL) {
+            System.out.println("  Percentil: " + percentil);
+        }
+        if (operacion == Operacion.GRANULOMETRIA) {
+            System.out.println("  Tamaño máximo: " + tamanoMaximo);
+        }
+        if (ordenColor != null && (operacion == Operacion.EROSION || operacion == Operacion.DILATACION)) {
+            System.out.println("  Orden de color: " + ordenColor);
+        }
+        if (nombreMotor != null) {
+            System.out.println("  Motor: " + nombreMotor);
+        }
         System.out.println("  Modo: " + modo);
         if (modo.equals("paralelo") || modo.equals("ambos")) {
-            System.out.println("  Hilos: " + numHilos);
+            // Con "auto" el numero real de hilos se conoce al cargar el perfil, se informa ahi
+            System.out.println("  Hilos: " + (hilosExplicitos ? String.valueOf(numHilos) : "auto"));
         }
         System.out.println("\n" + "=".repeat(50) + "\n");
 
@@ -51,16 +140,57 @@ public class Main {
             long tiempoSecuencial = 0;
             long tiempoParalelo = 0;
 
+            if (modo.equals("autotune")) {
+                ProcesarSecuencial proc = new ProcesarSecuencial(rutaImagen);
+                Autotuner.Configuracion mejor = Autotuner.calibrar(proc.getImagenOriginal(), operacion, elemento);
+                Autotuner.guardar(proc.getAncho(), proc.getAlto(), mejor);
+                return;
+            }
+
             if (modo.equals("secuencial") || modo.equals("ambos")) {
                 ProcesarSecuencial procSecuencial = new ProcesarSecuencial(rutaImagen);
-                tiempoSecuencial = procSecuencial.procesar(operacion, elemento);
-                procSecuencial.guardarImagen("resultado_secuencial_" + operacion.toString().toLowerCase() + "_caso" + caso + ".png");
+                procSecuencial.setAlturaH(alturaH);
+                procSecuencial.setPercentil(percentil);
+                procSecuencial.setOrdenColor(ordenColor);
+                if (nombreMotor != null) {
+                    procSecuencial.setMotor(Motores.crear(nombreMotor, numHilos));
+                }
+                if (operacion == Operacion.GRANULOMETRIA) {
+                    String nombre = "granulometria_secuencial_caso" + caso;
+                    tiempoSecuencial = Granulometria.procesar(procSecuencial.getImagenOriginal(), elemento, tamanoMaximo,
+                            procSecuencial.getMotor(), nombre + ".csv", guardarAperturas ? nombre : null);
+                } else {
+                    tiempoSecuencial = procSecuencial.procesar(operacion, elemento);
+                    procSecuencial.guardarImagen("resultado_secuencial_" + operacion.toString().toLowerCase() + "_caso" + caso + ".png");
+                }
             }
 
             if (modo.equals("paralelo") || modo.equals("ambos")) {
                 ProcesarParalelo procParalelo = new ProcesarParalelo(rutaImagen, numHilos);
-                tiempoParalelo = procParalelo.procesarParalelo(operacion, elemento);
-                procParalelo.guardarImagen("resultado_paralelo_" + operacion.toString().toLowerCase() + "_caso" + caso + ".png");
+                procParalelo.setAlturaH(alturaH);
+                procParalelo.setPercentil(percentil);
+                procParalelo.setOrdenColor(ordenColor);
+                if (!hilosExplicitos) {
+                    Autotuner.Configuracion perfil = Autotuner.cargar(procParalelo.getAncho(), procParalelo.getAlto());
+                    if (perfil != null) {
+                        System.out.println("Usando perfil de autotune: " + perfil);
+                        perfil.aplicar(procParalelo);
+                        numHilos = perfil.numHilos;
+                    } else {
+                        System.out.println("Sin perfil de autotune para esta imagen, usando " + numHilos + " hilos");
+                    }
+                }
+                if (nombreMotor != null) {
+                    procParalelo.setMotor(Motores.crear(nombreMotor, numHilos));
+                }
+                if (operacion == Operacion.GRANULOMETRIA) {
+                    String nombre = "granulometria_paralelo_caso" + caso;
+                    tiempoParalelo = Granulometria.procesar(procParalelo.getImagenOriginal(), elemento, tamanoMaximo,
+                            procParalelo.getMotorParalelo(), nombre + ".csv", guardarAperturas ? nombre : null);
+                } else {
+                    tiempoParalelo = procParalelo.procesarParalelo(operacion, elemento);
+                    procParalelo.guardarImagen("resultado_paralelo_" + operacion.toString().toLowerCase() + "_caso" + caso + ".png");
+                }
             }
 
             if (modo.equals("ambos")) {
@@ -86,17 +216,45 @@ public class Main {
     }
 
     private static void mostrarAyuda() {
-        System.out.println("\nUso: java Main <operacion> <caso> <numHilos> <modo>");
+        System.out.println("\nUso: java Main <operacion> <caso> <numHilos> <modo> [clave=valor ...]");
         System.out.println("\nParámetros:");
         System.out.println("  <operacion>  : EROSION o DILATACION (por defecto: EROSION)");
+        System.out.println("                 RELLENAR_HUECOS, ELIMINAR_BORDES o H_MAXIMOS (reconstrucción geodésica)");
+        System.out.println("                 MEDIANA o PERCENTIL (filtros de rango)");
+        System.out.println("                 GRANULOMETRIA (espectro de patrones en CSV)");
         System.out.println("  <caso>       : 1-6 (por defecto: 1)");
-        System.out.println("  <numHilos>   : Número de hilos (por defecto: procesadores disponibles)");
-        System.out.println("  <modo>       : secuencial, paralelo, o ambos (por defecto: ambos)");
+        System.out.println("  <numHilos>   : Número de hilos, o auto/0 para usar el perfil de autotune");
+        System.out.println("                 (por defecto: auto; sin perfil se usan los procesadores disponibles)");
+        System.out.println("  <modo>       : secuencial, paralelo, ambos, autotune o verificar (por defecto: ambos)");
+        System.out.println("                 autotune calibra hilos, tiles y kernel y los guarda en " + Autotuner.ARCHIVO_PERFIL);
+        System.out.println("                 verificar compara un motor con la referencia en imágenes aleatorias");
+        System.out.println("\nOpciones:");
+        System.out.println("  h=<valor>    : altura de los máximos que elimina H_MAXIMOS (por defecto: 20)");
+        System.out.println("  p=<valor>    : percentil 0-100 que usa PERCENTIL (por defecto: 50)");
+        System.out.println("  k=<valor>    : tamaño máximo del elemento en GRANULOMETRIA (por defecto: 10)");
+        System.out.println("  imagenes=si  : GRANULOMETRIA guarda la apertura de cada tamaño (por defecto: no)");
+        System.out.println("  orden=<modo> : orden de color de EROSION/DILATACION: canal, luminancia o prioridad");
+        System.out.println("                 de canales como GRB; luminancia y prioridad no crean colores nuevos");
+        System.out.println("                 (por defecto: canal)");
+        System.out.println("  motor=<nombre>: motor de EROSION, DILATACION (con orden=canal) y GRANULOMETRIA");
+        System.out.println("                 (por defecto: secuencial o el del perfil)");
+        System.out.println("  pruebas=<n>  : cantidad de pruebas de verificar (por defecto: 50)");
+        System.out.println("  semilla=<n>  : semilla de las imágenes aleatorias de verificar (por defecto: 1)");
         System.out.println("\nEjemplos:");
         System.out.println("  java Main EROSION 1 4 secuencial");
         System.out.println("  java Main DILATACION 3 8 paralelo");
         System.out.println("  java Main EROSION 2 4 ambos");
+        System.out.println("  java Main EROSION 1 1 autotune");
+        System.out.println("  java Main EROSION 1 auto paralelo");
+        System.out.println("  java Main H_MAXIMOS 1 4 ambos h=30");
+        System.out.println("  java Main PERCENTIL 6 4 paralelo p=25");
+        System.out.println("  java Main GRANULOMETRIA 1 4 ambos k=8");
+        System.out.println("  java Main EROSION 1 4 ambos orden=luminancia");
+        System.out.println("  java Main EROSION 1 4 paralelo motor=desplazamientos");
+        System.out.println("  java Main EROSION 1 4 verificar motor=paralelo-desplazamientos");
         System.out.println("\nCasos de Elementos Estructurantes:");
         ElementoEstructurante.mostrarCasosDisponibles();
+        System.out.println();
+        Motores.mostrarMotoresDisponibles();
     }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+//motor que precalcula la lista de desplazamientos activos del elemento y trabaja directo sobre el arreglo
+//en el interior de la imagen no hace falta revisar bordes, solo se revisan en el marco exterior
+public class MotorDesplazamientos implements MotorMorfologia {
+
+    @Override
+    public String getNombre() {
+        return "desplazamientos";
+    }
+
+    @Override
+    public void procesarBloque(int[] origen, int[] destino, int ancho, int alto, int[] bloque,
+                               Operacion operacion, ElementoEstructurante elemento) {
+        // Desplazamientos (dx, dy) de las posiciones activas respecto al centro
+        int[][] desplazamientos = elemento.getDesplazamientos();
+        int[] dx = desplazamientos[0];
+        int[] dy = desplazamientos[1];
+        int total = dx.length;
+        int[] delta = new int[total]; // desplazamiento lineal dentro del arreglo
+        int minDx = 0, maxDx = 0, minDy = 0, maxDy = 0;
+        for (int k = 0; k < total; k++) {
+            delta[k] = dy[k] * ancho + dx[k];
+            minDx = Math.min(minDx, dx[k]);
+            maxDx = Math.max(maxDx, dx[k]);
+            minDy = Math.min(minDy, dy[k]);
+            maxDy = Math.max(maxDy, dy[k]);
+        }
+
+        boolean erosion = (operacion == Operacion.EROSION);
+
+        for (int y = bloque[1]; y < bloque[3]; y++) {
+            boolean filaInterior = (y + minDy >= 0 && y + maxDy < alto);
+            int fila = y * ancho;
+
+            for (int x = bloque[0]; x < bloque[2]; x++) {
+                int r = erosion ? 255 : 0;
+                int g = r;
+                int b = r;
+                boolean interior = filaInterior && x + minDx >= 0 && x + maxDx < ancho;
+
+                for (int i = 0; i < total; i++) {
+                    int rgb;
+                    if (interior) {
+                        rgb = origen[fila + x + delta[i]];
+                    } else {
+                        rgb = Pixeles.leer(origen, ancho, alto, x + dx[i], y + dy[i]);
+                    }
+
+                    if (erosion) {
+                        r = Math.min(r, (rgb >> 16) & 0xFF);
+                        g = Math.min(g, (rgb >> 8) & 0xFF);
+                        b = Math.min(b, rgb & 0xFF);
+                    } else {
+                        r = Math.max(r, (rgb >> 16) & 0xFF);
+                        g = Math.max(g, (rgb >> 8) & 0xFF);
+                        b = Math.max(b, rgb & 0xFF);
+                    }
+                }
+
+                destino[fila + x] = (r << 16) | (g << 8) | b;
+            }
+        }
+    }
+}
\ No newline at end of file
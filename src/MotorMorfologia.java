@@ -0,0 +1,20 @@
+//interfaz de los motores de erosion y dilatacion
+//todos trabajan sobre los pixeles RGB de la imagen guardados fila por fila en un arreglo,
+//y los pixeles fuera de la imagen cuentan como negro
+//el motor de referencia es MotorSecuencial; los demas deben dar exactamente el mismo resultado (ver Verificador)
+public interface MotorMorfologia {
+
+    //nombre con el que se elige el motor desde Main (ver Motores)
+    String getNombre();
+
+    //calcula la erosion o dilatacion del bloque {x0, y0, x1, y1} de origen y la escribe en destino
+    void procesarBloque(int[] origen, int[] destino, int ancho, int alto, int[] bloque,
+                        Operacion operacion, ElementoEstructurante elemento);
+
+    //calcula la erosion o dilatacion de toda la imagen
+    default int[] aplicar(int[] origen, int ancho, int alto, Operacion operacion, ElementoEstructurante elemento) {
+        int[] destino = new int[ancho * alto];
+        procesarBloque(origen, destino, ancho, alto, new int[] {0, 0, ancho, alto}, operacion, elemento);
+        return destino;
+    }
+}
\ No newline at end of file
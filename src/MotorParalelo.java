@@ -0,0 +1,123 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch; //para sincronización de hilos
+import java.util.concurrent.ExecutorService;//para manejar el pool de hilos
+import java.util.concurrent.Executors;//para crear el pool de hilos y iniciar tareas
+import java.util.function.Consumer;
+
+//motor que reparte el bloque entre un pool de hilos y cada parte la calcula otro motor (el motor base)
+//por defecto se usa una franja horizontal por hilo; con setTiles se divide en bloques de altoTile x anchoTile
+//que los hilos del pool van tomando
+public class MotorParalelo implements MotorMorfologia {
+
+    private final MotorMorfologia base;
+    private final int numHilos;
+    private int altoTile = 0;   // 0 = una franja de alto/numHilos filas por hilo
+    private int anchoTile = 0;  // 0 = la franja ocupa todo el ancho
+    private boolean informarHilos = false; // imprime que filas procesa cada hilo
+
+    public MotorParalelo(MotorMorfologia base, int numHilos) {
+        this.base = base;
+        this.numHilos = numHilos;
+    }
+
+    @Override
+    public String getNombre() {
+        return (base instanceof MotorSecuencial) ? "paralelo" : "paralelo-" + base.getNombre();
+    }
+
+    @Override
+    public void procesarBloque(int[] origen, int[] destino, int ancho, int alto, int[] bloque,
+                               Operacion operacion, ElementoEstructurante elemento) {
+        ejecutar(bloque, parte -> base.procesarBloque(origen, destino, ancho, alto, parte, operacion, elemento));
+    }
+
+    //divide el bloque y ejecuta la tarea sobre cada parte en el pool de hilos; espera a que terminen todas
+    public void ejecutar(int[] bloque, Consumer<int[]> tarea) {
+        List<int[]> partes = dividir(bloque);
+
+        // Crear pool de hilos
+        ExecutorService executor = Executors.newFixedThreadPool(numHilos);
+        CountDownLatch latch = new CountDownLatch(partes.size());
+
+        for (int i = 0; i < partes.size(); i++) {
+            final int hiloNum = i;
+            final int[] parte = partes.get(i); // {x0, y0, x1, y1}
+
+            executor.submit(() -> {
+                try {
+                    if (informarHilos && altoTile == 0) {
+                        System.out.println("Hilo " + hiloNum + " procesando filas " +
+                                parte[1] + " a " + (parte[3] - 1));
+                    }
+
+                    tarea.accept(parte);
+
+                    if (informarHilos && altoTile == 0) {
+                        System.out.println("Hilo " + hiloNum + " completado");
+                    }
+
+                } finally {
+                    latch.countDown(); // Indicar que esta parte ha terminado
+                }
+            });
+        }
+
+        try {
+            // Esperar a que todos los hilos terminen
+            latch.await(); // Espera activa para que todos los hilos terminen
+        } catch (InterruptedException e) {
+            System.err.println("Error esperando hilos: " + e.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    //divide el bloque {x0, y0, x1, y1} en partes; sin tiles se usa una franja por hilo
+    private List<int[]> dividir(int[] bloque) {
+        List<int[]> partes = new ArrayList<>();
+        int alto = bloque[3] - bloque[1];
+
+        if (altoTile == 0) {
+            int filasPorHilo = alto / numHilos;
+            for (int i = 0; i < numHilos; i++) {
+                int filaInicio = bloque[1] + i * filasPorHilo;
+                int filaFin = (i == numHilos - 1) ? bloque[3] : bloque[1] + (i + 1) * filasPorHilo;
+                partes.add(new int[] {bloque[0], filaInicio, bloque[2], filaFin});
+            }
+            return partes;
+        }
+
+        int anchoParte = (anchoTile == 0) ? bloque[2] - bloque[0] : anchoTile;
+        for (int y = bloque[1]; y < bloque[3]; y += altoTile) {
+            for (int x = bloque[0]; x < bloque[2]; x += anchoParte) {
+                partes.add(new int[] {x, y, Math.min(x + anchoParte, bloque[2]), Math.min(y + altoTile, bloque[3])});
+            }
+        }
+        return partes;
+    }
+
+    public String describirDivision() {
+        if (altoTile == 0) return "franjas (una por hilo)";
+        if (anchoTile == 0) return "franjas de " + altoTile + " filas";
+        return "tiles de " + altoTile + "x" + anchoTile;
+    }
+
+    //altoTile = 0 vuelve a la division en una franja por hilo; anchoTile = 0 usa todo el ancho
+    public void setTiles(int altoTile, int anchoTile) {
+        this.altoTile = altoTile;
+        this.anchoTile = anchoTile;
+    }
+
+    public void setInformarHilos(boolean informarHilos) {
+        this.informarHilos = informarHilos;
+    }
+
+    public MotorMorfologia getBase() {
+        return base;
+    }
+
+    public int getNumHilos() {
+        return numHilos;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+//motor de referencia: para cada pixel recorre la matriz del elemento estructurante
+//y busca el minimo (erosion) o el maximo (dilatacion) de cada canal
+public class MotorSecuencial implements MotorMorfologia {
+
+    @Override
+    public String getNombre() {
+        return "secuencial";
+    }
+
+    @Override
+    public void procesarBloque(int[] origen, int[] destino, int ancho, int alto, int[] bloque,
+                               Operacion operacion, ElementoEstructurante elemento) {
+        boolean erosion = (operacion == Operacion.EROSION);
+
+        for (int y = bloque[1]; y < bloque[3]; y++) {
+            for (int x = bloque[0]; x < bloque[2]; x++) {
+                destino[y * ancho + x] = aplicarPixel(origen, ancho, alto, x, y, elemento, erosion);
+            }
+        }
+    }
+
+    //aplica la erosion o dilatacion a un pixel segun el elemento estructurante
+    //la erosion comienza con el valor maximo (255) y busca el minimo, la dilatacion al reves
+    private int aplicarPixel(int[] origen, int ancho, int alto, int x, int y,
+                             ElementoEstructurante elemento, boolean erosion) {
+        int r = erosion ? 255 : 0;
+        int g = r;
+        int b = r;
+
+        // Obtener dimensiones y centro del elemento estructurante
+        int alturaElem = elemento.getAlto();
+        int anchoElem = elemento.getAncho();
+        int centroX = elemento.getCentroX();
+        int centroY = elemento.getCentroY();
+
+        // Recorrer el elemento estructurante
+        for (int ey = 0; ey < alturaElem; ey++) {
+            for (int ex = 0; ex < anchoElem; ex++) {
+                // Solo procesar si el elemento está activo (valor = 1)
+                if (elemento.estaActivo(ey, ex)) {
+                    // Calcular la posición correspondiente en la imagen
+                    int imgX = x + (ex - centroX);
+                    int imgY = y + (ey - centroY);
+
+                    // Obtener el píxel de forma segura (maneja bordes)
+                    int rgb = Pixeles.leer(origen, ancho, alto, imgX, imgY);
+
+                    if (erosion) {
+                        r = Math.min(r, obtenerRojo(rgb));
+                        g = Math.min(g, obtenerVerde(rgb));
+                        b = Math.min(b, obtenerAzul(rgb));
+                    } else {
+                        r = Math.max(r, obtenerRojo(rgb));
+                        g = Math.max(g, obtenerVerde(rgb));
+                        b = Math.max(b, obtenerAzul(rgb));
+                    }
+                }
+            }
+        }
+
+        return combinarRGB(r, g, b);
+    }
+
+    //obtener los colores dentro del espectro correspodiente
+
+    private static int obtenerRojo(int rgb) {
+        return (rgb >> 16) & 0xFF;
+    }
+
+    private static int obtenerVerde(int rgb) {
+        return (rgb >> 8) & 0xFF;
+    }
+
+    private static int obtenerAzul(int rgb) {
+        return rgb & 0xFF;
+    }
+
+    private static int combinarRGB(int r, int g, int b) {
+        return (r << 16) | (g << 8) | b;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+//lista de motores de erosion y dilatacion que se pueden elegir por nombre
+public class Motores {
+
+    // Motores que calculan un bloque en el hilo que los llama; son los que usa ProcesarParalelo dentro de cada tile
+    public static final String[] KERNELS = {"secuencial", "desplazamientos"};
+
+    //crea el motor con ese nombre; los motores "paralelo" usan numHilos hilos
+    //"paralelo" reparte el motor secuencial y "paralelo-<kernel>" reparte el kernel indicado
+    public static MotorMorfologia crear(String nombre, int numHilos) {
+        String motor = nombre.toLowerCase();
+        switch (motor) {
+            case "secuencial":
+                return new MotorSecuencial();
+            case "desplazamientos":
+                return new MotorDesplazamientos();
+            case "paralelo":
+                return new MotorParalelo(new MotorSecuencial(), numHilos);
+            default:
+                if (motor.startsWith("paralelo-")) {
+                    return new MotorParalelo(crear(motor.substring("paralelo-".length()), numHilos), numHilos);
+                }
+                throw new IllegalArgumentException("Motor no válido: " + nombre);
+        }
+    }
+
+    public static void mostrarMotoresDisponibles() {
+        System.out.println("Motores disponibles:");
+        System.out.println("  secuencial               - referencia, recorre la matriz del elemento en cada pixel");
+        System.out.println("  desplazamientos          - precalcula los desplazamientos activos del elemento");
+        System.out.println("  paralelo                 - secuencial repartido en franjas entre los hilos");
+        System.out.println("  paralelo-desplazamientos - desplazamientos repartido en franjas entre los hilos");
+    }
+}
\ No newline at end of file
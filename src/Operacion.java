@@ -1,5 +1,23 @@
 //definicion del enum Operacion que puede ser EROSION o DILATACION
+//o una de las operaciones de reconstruccion geodesica (ver Reconstruccion)
+//o un filtro de rango: mediana o percentil (ver FiltroRango)
+//o la granulometria, que produce un CSV en vez de una imagen (ver Granulometria)
 public enum Operacion {
     EROSION,
-    DILATACION
+    DILATACION,
+    RELLENAR_HUECOS,
+    ELIMINAR_BORDES,
+    H_MAXIMOS,
+    MEDIANA,
+    PERCENTIL,
+    GRANULOMETRIA;
+
+    //las operaciones de reconstruccion no se calculan pixel a pixel sino sobre la imagen completa
+    public boolean esReconstruccion() {
+        return this == RELLENAR_HUECOS || this == ELIMINAR_BORDES || this == H_MAXIMOS;
+    }
+
+    public boolean esRango() {
+        return this == MEDIANA || this == PERCENTIL;
+    }
 }
\ No newline at end of file
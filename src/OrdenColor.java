@@ -0,0 +1,100 @@
+//orden vectorial de colores para erosion y dilatacion
+//el minimo/maximo por canal puede armar colores que no estaban en la imagen; con un orden total
+//entre colores se elige siempre un pixel completo de la vecindad
+//cada color se convierte una vez en una clave entera que se compara con un simple min/max,
+//y como la clave guarda los tres canales el color se recupera de ella sin volver a la imagen
+//queda fuera de MotorMorfologia a proposito: su resultado no es el min/max por canal de MotorSecuencial,
+//asi que el modo verificar no tiene contra que compararlo
+public class OrdenColor {
+
+    private final boolean luminancia; // primero la luminancia, despues R, G, B
+    private final int[] prioridad;    // desplazamiento (16, 8 o 0) de cada canal, del mas al menos importante
+
+    private OrdenColor(boolean luminancia, int[] prioridad) {
+        this.luminancia = luminancia;
+        this.prioridad = prioridad;
+    }
+
+    //"canal" (min/max por canal, devuelve null), "luminancia" o una prioridad de canales como "GRB"
+    public static OrdenColor desde(String texto) {
+        String orden = texto.toUpperCase();
+        if (orden.equals("CANAL")) {
+            return null;
+        }
+        if (orden.equals("LUMINANCIA")) {
+            return new OrdenColor(true, new int[] {16, 8, 0});
+        }
+        if (orden.length() == 3 && orden.indexOf('R') >= 0 && orden.indexOf('G') >= 0 && orden.indexOf('B') >= 0) {
+            int[] prioridad = new int[3];
+            for (int i = 0; i < 3; i++) {
+                prioridad[i] = (orden.charAt(i) == 'R') ? 16 : (orden.charAt(i) == 'G') ? 8 : 0;
+            }
+            return new OrdenColor(false, prioridad);
+        }
+        throw new IllegalArgumentException("Orden de color no válido: " + texto + " (use canal, luminancia o p.ej. GRB)");
+    }
+
+    //clave ordenable: [luminancia][canal 1][canal 2][canal 3]; se invierte el bit de signo para que
+    //la comparacion normal de int respete el orden sin signo
+    public int clave(int rgb) {
+        int r = (rgb >> 16) & 0xFF;
+        int g = (rgb >> 8) & 0xFF;
+        int b = rgb & 0xFF;
+        int clave = (((rgb >> prioridad[0]) & 0xFF) << 16)
+                | (((rgb >> prioridad[1]) & 0xFF) << 8)
+                | ((rgb >> prioridad[2]) & 0xFF);
+        if (luminancia) {
+            clave |= ((299 * r + 587 * g + 114 * b) / 1000) << 24;
+        }
+        return clave ^ Integer.MIN_VALUE;
+    }
+
+    //recupera el color a partir de su clave
+    public int pixel(int clave) {
+        clave ^= Integer.MIN_VALUE;
+        return (((clave >> 16) & 0xFF) << prioridad[0])
+                | (((clave >> 8) & 0xFF) << prioridad[1])
+                | ((clave & 0xFF) << prioridad[2]);
+    }
+
+    //plano de claves de toda la imagen, se calcula una vez antes de recorrerla
+    public int[] planoClaves(int[] pixeles) {
+        int[] claves = new int[pixeles.length];
+        for (int i = 0; i < pixeles.length; i++) {
+            claves[i] = clave(pixeles[i]);
+        }
+        return claves;
+    }
+
+    //erosion (clave minima) o dilatacion (clave maxima) del bloque {x0, y0, x1, y1}
+    public void procesarBloque(int[] claves, int[] destino, int ancho, int alto, int[] bloque,
+                               ElementoEstructurante elemento, boolean erosion) {
+        int claveNegro = clave(0); // Negro para píxeles fuera de la imagen
+
+        int[][] desplazamientos = elemento.getDesplazamientos();
+        int[] dx = desplazamientos[0];
+        int[] dy = desplazamientos[1];
+        int total = dx.length;
+
+        for (int y = bloque[1]; y < bloque[3]; y++) {
+            for (int x = bloque[0]; x < bloque[2]; x++) {
+                int mejor = erosion ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+                for (int i = 0; i < total; i++) {
+                    int c = Pixeles.leer(claves, ancho, alto, x + dx[i], y + dy[i], claveNegro);
+                    mejor = erosion ? Math.min(mejor, c) : Math.max(mejor, c);
+                }
+                destino[y * ancho + x] = pixel(mejor);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (luminancia) return "luminancia";
+        StringBuilder texto = new StringBuilder();
+        for (int desplazamiento : prioridad) {
+            texto.append(desplazamiento == 16 ? 'R' : desplazamiento == 8 ? 'G' : 'B');
+        }
+        return texto.toString();
+    }
+}
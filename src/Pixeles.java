@@ -0,0 +1,17 @@
+//lectura de pixeles de una imagen guardada fila por fila en un arreglo
+//los pixeles fuera de la imagen cuentan como negro, igual en todos los motores y filtros
+public class Pixeles {
+
+    //pixel (x, y), o negro si esta fuera de la imagen
+    public static int leer(int[] pixeles, int ancho, int alto, int x, int y) {
+        return leer(pixeles, ancho, alto, x, y, 0);
+    }
+
+    //valor (x, y) del arreglo, o fuera si esta fuera de la imagen (por ejemplo la clave del negro en OrdenColor)
+    public static int leer(int[] valores, int ancho, int alto, int x, int y, int fuera) {
+        if (x >= 0 && x < ancho && y >= 0 && y < alto) {
+            return valores[y * ancho + x];
+        }
+        return fuera;
+    }
+}
@@ -1,17 +1,22 @@
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.concurrent.CountDownLatch; //para sincronización de hilos
-import java.util.concurrent.ExecutorService;//para manejar el pool de hilos
-import java.util.concurrent.Executors;//para crear el pool de hilos y iniciar tareas
 
 public class ProcesarParalelo extends ProcesarSecuencial {
 
     public int numHilos;
+    private int altoTile = 0;   // 0 = una franja de alto/numHilos filas por hilo
+    private int anchoTile = 0;  // 0 = la franja ocupa todo el ancho
+    private boolean silencioso = false; // el autotuner lo activa para no llenar la consola
 
     public ProcesarParalelo(String rutaImagen, int numHilos) throws IOException {
         super(rutaImagen);
         this.numHilos = numHilos;
     }
+
+    public ProcesarParalelo(BufferedImage imagen, int numHilos) {
+        super(imagen);
+        this.numHilos = numHilos;
+    }
     //procesa la imagen en paralelo dividiendola en franjas horizontales
     /*
         Ejemplo del programa:
@@ -25,12 +30,33 @@ public class ProcesarParalelo extends ProcesarSecuencial {
         |          |
         ------------
         etc...
+
+        Si se configura un tamaño de tile (setTiles) la imagen se divide en
+        bloques de altoTile x anchoTile y los hilos del pool los van tomando.
     */
     public long procesarParalelo(Operacion operacion, ElementoEstructurante elemento) {
-        System.out.println("\n=== Procesamiento Paralelo ===");
-        System.out.println("Operación: " + operacion);
-        System.out.println("Elemento: Caso " + elemento.getCaso() + " - " + elemento.getNombreCaso());
-        System.out.println("Número de hilos: " + numHilos);
+        if (operacion == Operacion.GRANULOMETRIA) {
+            throw new IllegalArgumentException("La granulometría se calcula con Granulometria.procesar");
+        }
+
+        MotorParalelo paralelo = getMotorParalelo();
+        final MotorMorfologia motor = paralelo.getBase();
+        paralelo.setInformarHilos(!silencioso);
+
+        if (!silencioso) {
+            System.out.println("\n=== Procesamiento Paralelo ===");
+            System.out.println("Operación: " + operacion);
+            System.out.println("Elemento: Caso " + elemento.getCaso() + " - " + elemento.getNombreCaso());
+            System.out.println("Número de hilos: " + numHilos);
+            if (usaMotor(operacion)) {
+                System.out.println("Motor: " + paralelo.getNombre() + ", división: " + paralelo.describirDivision());
+            } else {
+                System.out.println("División: " + paralelo.describirDivision());
+            }
+            if (getOrdenColor() != null && !operacion.esRango()) {
+                System.out.println("Orden de color: " + getOrdenColor());
+            }
+        }
 
         long tiempoInicio = System.currentTimeMillis();
 
@@ -38,125 +64,79 @@ public class ProcesarParalelo extends ProcesarSecuencial {
             getAncho(), getAlto(), BufferedImage.TYPE_INT_RGB
         );
 
-        // Crear pool de hilos
-        ExecutorService executor = Executors.newFixedThreadPool(numHilos);
-        CountDownLatch latch = new CountDownLatch(numHilos);
-
-        // Dividir el trabajo en franjas horizontales
-        int filasPorHilo = getAlto() / numHilos;
-
-        for (int i = 0; i < numHilos; i++) {
-            final int hiloNum = i;
-            final int filaInicio = i * filasPorHilo;
-            final int filaFin = (i == numHilos - 1) ? getAlto() : (i + 1) * filasPorHilo;
-
-            executor.submit(() -> {
-                try {
-                    System.out.println("Hilo " + hiloNum + " procesando filas " +
-                            filaInicio + " a " + (filaFin - 1));
-
-                    // Procesar la franja asignada
-                    for (int y = filaInicio; y < filaFin; y++) {
-                        for (int x = 0; x < getAncho(); x++) {
-                            int nuevoPixel;
-
-                            if (operacion == Operacion.EROSION) {
-                                nuevoPixel = aplicarErosionParalelo(x, y, elemento);
-                            } else {
-                                nuevoPixel = aplicarDilatacionParalelo(x, y, elemento);
-                            }
+        // La reconstruccion usa el mismo reparto en franjas o tiles y propaga entre ellos por rondas
+        if (operacion.esReconstruccion()) {
+            paralelo.setInformarHilos(false); // se repite una vez por ronda
+            int[] resultado = Reconstruccion.aplicar(operacion, obtenerPixeles(), getAncho(), getAlto(),
+                    elemento, getAlturaH(), paralelo);
+            imagenResultado.setRGB(0, 0, getAncho(), getAlto(), resultado, 0, getAncho());
+            return terminar(imagenResultado, tiempoInicio);
+        }
 
-                            imagenResultado.setRGB(x, y, nuevoPixel);
-                        }
-                    }
+        final int[] origen = obtenerPixeles();
+        final int[] destino = new int[getAncho() * getAlto()];
+        final OrdenColor orden = operacion.esRango() ? null : getOrdenColor();
+        final int percentil = getPercentil(operacion);
+        // El plano de claves se calcula una sola vez y lo comparten todos los hilos
+        final int[] claves = (orden != null) ? orden.planoClaves(origen) : null;
+
+        paralelo.ejecutar(new int[] {0, 0, getAncho(), getAlto()}, bloque -> {
+            if (operacion.esRango()) {
+                FiltroRango.procesarBloque(origen, destino, getAncho(), getAlto(), bloque, elemento, percentil);
+            } else if (orden != null) {
+                orden.procesarBloque(claves, destino, getAncho(), getAlto(), bloque, elemento,
+                        operacion == Operacion.EROSION);
+            } else {
+                motor.procesarBloque(origen, destino, getAncho(), getAlto(), bloque, operacion, elemento);
+            }
+        });
 
-                    System.out.println("Hilo " + hiloNum + " completado");
+        imagenResultado.setRGB(0, 0, getAncho(), getAlto(), destino, 0, getAncho());
 
-                } finally {
-                    latch.countDown(); // Indicar que este hilo ha terminado
-                }
-            });
-        }
+        return terminar(imagenResultado, tiempoInicio);
+    }
 
-        try {
-            // Esperar a que todos los hilos terminen
-            latch.await(); // Espera activa para que todos los hilos terminen
-        } catch (InterruptedException e) {
-            System.err.println("Error esperando hilos: " + e.getMessage());
-        } finally {
-            executor.shutdown();
-        }
+    //motor que reparte el motor elegido entre los hilos con la division en franjas o tiles configurada
+    //si el motor elegido ya es paralelo se usa su motor base, para no crear un pool dentro de cada franja
+    public MotorParalelo getMotorParalelo() {
+        MotorMorfologia base = (getMotor() instanceof MotorParalelo)
+                ? ((MotorParalelo) getMotor()).getBase() : getMotor();
+        MotorParalelo paralelo = new MotorParalelo(base, numHilos);
+        paralelo.setTiles(altoTile, anchoTile);
+        return paralelo;
+    }
 
+    //mide el tiempo total y guarda el resultado
+    private long terminar(BufferedImage imagenResultado, long tiempoInicio) {
         long tiempoFin = System.currentTimeMillis();
         long tiempoTotal = tiempoFin - tiempoInicio;
 
-        System.out.println("Progreso: 100%");
-        System.out.println("Tiempo de procesamiento paralelo: " + tiempoTotal + " ms");
+        if (!silencioso) {
+            System.out.println("Progreso: 100%");
+            System.out.println("Tiempo de procesamiento paralelo: " + tiempoTotal + " ms");
+        }
 
         // Guardar el resultado en el objeto
         setImagenResultado(imagenResultado);
 
         return tiempoTotal;
     }
-    //se usa el minimo de los pixeles cubiertos por el elemento estructurante
-    public int aplicarErosionParalelo(int x, int y, ElementoEstructurante elemento) {
-        int minR = 255, minG = 255, minB = 255;
-
-        int alturaElem = elemento.getAlto();
-        int anchoElem = elemento.getAncho();
-        int centroX = elemento.getCentroX();
-        int centroY = elemento.getCentroY();
-
-        for (int ey = 0; ey < alturaElem; ey++) {
-            for (int ex = 0; ex < anchoElem; ex++) {
-                if (elemento.estaActivo(ey, ex)) {
-                    int imgX = x + (ex - centroX);
-                    int imgY = y + (ey - centroY);
-                    int rgb = obtenerPixelSeguro(imgX, imgY);
-
-                    minR = Math.min(minR, obtenerRojo(rgb));
-                    minG = Math.min(minG, obtenerVerde(rgb));
-                    minB = Math.min(minB, obtenerAzul(rgb));
-                }
-            }
-        }
 
-        return combinarRGB(minR, minG, minB);
+    //altoTile = 0 vuelve a la division en una franja por hilo; anchoTile = 0 usa todo el ancho
+    public void setTiles(int altoTile, int anchoTile) {
+        this.altoTile = altoTile;
+        this.anchoTile = anchoTile;
     }
 
-    //se usa el maximo de los pixeles cubiertos por el elemento estructurante
-    public int aplicarDilatacionParalelo(int x, int y, ElementoEstructurante elemento) {
-        int maxR = 0, maxG = 0, maxB = 0;
-
-        int alturaElem = elemento.getAlto();
-        int anchoElem = elemento.getAncho();
-        int centroX = elemento.getCentroX();
-        int centroY = elemento.getCentroY();
-
-        for (int ey = 0; ey < alturaElem; ey++) {
-            for (int ex = 0; ex < anchoElem; ex++) {
-                if (elemento.estaActivo(ey, ex)) {
-                    int imgX = x + (ex - centroX);
-                    int imgY = y + (ey - centroY);
-                    int rgb = obtenerPixelSeguro(imgX, imgY);
-
-                    maxR = Math.max(maxR, obtenerRojo(rgb));
-                    maxG = Math.max(maxG, obtenerVerde(rgb));
-                    maxB = Math.max(maxB, obtenerAzul(rgb));
-                }
-            }
-        }
+    public int getAltoTile() {
+        return altoTile;
+    }
 
-        return combinarRGB(maxR, maxG, maxB);
+    public int getAnchoTile() {
+        return anchoTile;
     }
-    //metodo para establecer la imagen resultado usando reflexion
-    public void setImagenResultado(BufferedImage imagen) {
-        try {
-            java.lang.reflect.Field field = ProcesarSecuencial.class.getDeclaredField("imagenResultado");
-            field.setAccessible(true);
-            field.set(this, imagen);
-        } catch (Exception e) {
-            System.err.println("Error al establecer imagen resultado: " + e.getMessage());
-        }
+
+    public void setSilencioso(boolean silencioso) {
+        this.silencioso = silencioso;
     }
-}
+}
\ No newline at end of file
@@ -10,12 +10,24 @@ public class ProcesarSecuencial {
     private BufferedImage imagenResultado;
     private int ancho;
     private int alto;
+    private int[] pixeles; // copia en memoria de la imagen original, se crea solo cuando se pide
+    private int alturaH = 20; // altura minima de los maximos que conserva H_MAXIMOS
+    private int percentil = 50; // percentil que usa PERCENTIL (MEDIANA siempre usa 50)
+    private OrdenColor ordenColor = null; // null = minimo/maximo por canal
+    private MotorMorfologia motor = new MotorSecuencial(); // calcula la erosion y dilatacion
 
 
     public ProcesarSecuencial(String rutaImagen) throws IOException {
         cargarImagen(rutaImagen);
     }
 
+    //permite procesar una imagen que ya esta en memoria (por ejemplo una region de muestra)
+    public ProcesarSecuencial(BufferedImage imagen) {
+        imagenOriginal = imagen;
+        ancho = imagen.getWidth();
+        alto = imagen.getHeight();
+    }
+
     private void cargarImagen(String rutaImagen) throws IOException {
         File archivoImagen = new File(rutaImagen);
         if (!archivoImagen.exists()) {
@@ -30,33 +42,52 @@ public class ProcesarSecuencial {
     }
     //procesa la imagen de forma secuencial aplicando erosion o dilatacion
     public long procesar(Operacion operacion, ElementoEstructurante elemento) {
+        if (operacion == Operacion.GRANULOMETRIA) {
+            throw new IllegalArgumentException("La granulometría se calcula con Granulometria.procesar");
+        }
         System.out.println("\n=== Procesamiento Secuencial ===");
         System.out.println("Operación: " + operacion);
         System.out.println("Elemento: Caso " + elemento.getCaso() + " - " + elemento.getNombreCaso());
+        if (usaMotor(operacion)) {
+            System.out.println("Motor: " + motor.getNombre());
+        }
 
         long tiempoInicio = System.currentTimeMillis();
 
         imagenResultado = new BufferedImage(ancho, alto, BufferedImage.TYPE_INT_RGB);
 
-        // Recorrer cada píxel de la imagen
-        for (int y = 0; y < alto; y++) {
-            for (int x = 0; x < ancho; x++) {
-                int nuevoPixel;
-
-                if (operacion == Operacion.EROSION) {
-                    nuevoPixel = aplicarErosion(x, y, elemento);
-                } else {
-                    nuevoPixel = aplicarDilatacion(x, y, elemento);
+        // La reconstruccion trabaja sobre la imagen completa, no pixel a pixel
+        if (operacion.esReconstruccion()) {
+            int[] resultado = Reconstruccion.aplicar(operacion, obtenerPixeles(), ancho, alto, elemento, alturaH, null);
+            imagenResultado.setRGB(0, 0, ancho, alto, resultado, 0, ancho);
+        } else if (operacion.esRango()) {
+            // El filtro de rango desliza un histograma por cada fila
+            int[] resultado = new int[ancho * alto];
+            FiltroRango.procesarBloque(obtenerPixeles(), resultado, ancho, alto, new int[] {0, 0, ancho, alto},
+                    elemento, getPercentil(operacion));
+            imagenResultado.setRGB(0, 0, ancho, alto, resultado, 0, ancho);
+        } else if (ordenColor != null) {
+            // Erosion/dilatacion con orden de color: se comparan claves y se copia el pixel ganador
+            int[] resultado = new int[ancho * alto];
+            ordenColor.procesarBloque(ordenColor.planoClaves(obtenerPixeles()), resultado, ancho, alto,
+                    new int[] {0, 0, ancho, alto}, elemento, operacion == Operacion.EROSION);
+            imagenResultado.setRGB(0, 0, ancho, alto, resultado, 0, ancho);
+        } else {
+            // Recorrer la imagen en 10 tramos de filas para mostrar el progreso
+            int[] origen = obtenerPixeles();
+            int[] resultado = new int[ancho * alto];
+            for (int tramo = 0; tramo < 10; tramo++) {
+                int filaInicio = (alto * tramo) / 10;
+                int filaFin = (alto * (tramo + 1)) / 10;
+                motor.procesarBloque(origen, resultado, ancho, alto, new int[] {0, filaInicio, ancho, filaFin},
+                        operacion, elemento);
+
+                // Mostrar progreso cada 10%
+                if (tramo < 9) {
+                    System.out.println("Progreso: " + ((filaFin * 100) / alto) + "%");
                 }
-
-                imagenResultado.setRGB(x, y, nuevoPixel);
-            }
-
-            // Mostrar progreso cada 10%
-            if (y % (alto / 10) == 0 && y > 0) {
-                int porcentaje = (y * 100) / alto;
-                System.out.println("Progreso: " + porcentaje + "%");
             }
+            imagenResultado.setRGB(0, 0, ancho, alto, resultado, 0, ancho);
         }
 
         long tiempoFin = System.currentTimeMillis();
@@ -67,115 +98,19 @@ public class ProcesarSecuencial {
 
         return tiempoTotal;
     }
-    //aplica la erosion a un pixel segun el elemento estructurante, se comienza con el valor maximo y se busca el minimo
-    private int aplicarErosion(int x, int y, ElementoEstructurante elemento) {
-        // Inicializar con valores máximos (255) para encontrar el mínimo
-        int minR = 255;
-        int minG = 255;
-        int minB = 255;
-
-        // Obtener dimensiones y centro del elemento estructurante
-        int alturaElem = elemento.getAlto();
-        int anchoElem = elemento.getAncho();
-        int centroX = elemento.getCentroX();
-        int centroY = elemento.getCentroY();
-
-        // Recorrer el elemento estructurante
-        for (int ey = 0; ey < alturaElem; ey++) {
-            for (int ex = 0; ex < anchoElem; ex++) {
-                // Solo procesar si el elemento está activo (valor = 1)
-                if (elemento.estaActivo(ey, ex)) {
-                    // Calcular la posición correspondiente en la imagen
-                    int imgX = x + (ex - centroX);
-                    int imgY = y + (ey - centroY);
-
-                    // Obtener el píxel de forma segura (maneja bordes)
-                    int rgb = obtenerPixelSeguro(imgX, imgY);
-
-                    // Extraer componentes RGB
-                    int r = obtenerRojo(rgb);
-                    int g = obtenerVerde(rgb);
-                    int b = obtenerAzul(rgb);
-
-                    // Encontrar el MÍNIMO de cada canal
-                    minR = Math.min(minR, r);
-                    minG = Math.min(minG, g);
-                    minB = Math.min(minB, b);
-                }
-            }
-        }
-
-        // Combinar los valores mínimos en un color RGB
-        return combinarRGB(minR, minG, minB);
-    }
-    //aplica la dilatacion a un pixel segun el elemento estructurante, se comienza con el valor minimo y se busca el maximo
-    private int aplicarDilatacion(int x, int y, ElementoEstructurante elemento) {
-        // Inicializar con valores mínimos (0) para encontrar el máximo
-        int maxR = 0;
-        int maxG = 0;
-        int maxB = 0;
-
-        // Obtener dimensiones y centro del elemento estructurante
-        int alturaElem = elemento.getAlto();
-        int anchoElem = elemento.getAncho();
-        int centroX = elemento.getCentroX();
-        int centroY = elemento.getCentroY();
-
-        // Recorrer el elemento estructurante
-        for (int ey = 0; ey < alturaElem; ey++) {
-            for (int ex = 0; ex < anchoElem; ex++) {
-                // Solo procesar si el elemento está activo (valor = 1)
-                if (elemento.estaActivo(ey, ex)) {
-                    // Calcular la posición correspondiente en la imagen
-                    int imgX = x + (ex - centroX);
-                    int imgY = y + (ey - centroY);
-
-                    // Obtener el píxel de forma segura (maneja bordes)
-                    int rgb = obtenerPixelSeguro(imgX, imgY);
-
-                    // Extraer componentes RGB
-                    int r = obtenerRojo(rgb);
-                    int g = obtenerVerde(rgb);
-                    int b = obtenerAzul(rgb);
-
-                    // Encontrar el MÁXIMO de cada canal
-                    maxR = Math.max(maxR, r);
-                    maxG = Math.max(maxG, g);
-                    maxB = Math.max(maxB, b);
-                }
-            }
-        }
-
-        // Combinar los valores máximos en un color RGB
-        return combinarRGB(maxR, maxG, maxB);
-    }
-    //obtiene el pixel de la imagen, si esta fuera de los limites devuelve un color negro para evitar cualquer error
-    protected int obtenerPixelSeguro(int x, int y) {
-        if (x >= 0 && x < ancho && y >= 0 && y < alto) {
-            return imagenOriginal.getRGB(x, y);
-        }
-        return 0; // Negro para píxeles fuera de la imagen
-    }
-
-    //obtener los colores dentro del espectro correspodiente
-
-    protected int obtenerRojo(int rgb) {
-        return (rgb >> 16) & 0xFF;
-    }
-
 
-    protected int obtenerVerde(int rgb) {
-        return (rgb >> 8) & 0xFF;
+    //true si la operacion se calcula con el motor; la reconstruccion, los filtros de rango
+    //y el orden de color tienen su propio recorrido
+    protected boolean usaMotor(Operacion operacion) {
+        return !operacion.esReconstruccion() && !operacion.esRango() && ordenColor == null;
     }
 
-
-    protected int obtenerAzul(int rgb) {
-        return rgb & 0xFF;
-    }
-
-
-    protected int combinarRGB(int r, int g, int b) {
-        return (r << 16) | (g << 8) | b;
+    //devuelve todos los pixeles de la imagen original en un arreglo (fila por fila), se lee una sola vez
+    protected synchronized int[] obtenerPixeles() {
+        if (pixeles == null) {
+            pixeles = imagenOriginal.getRGB(0, 0, ancho, alto, null, 0, ancho);
+        }
+        return pixeles;
     }
 
     //donde se guardara la imagen
@@ -209,6 +144,43 @@ public class ProcesarSecuencial {
         return alto;
     }
 
+    public int getAlturaH() {
+        return alturaH;
+    }
+
+    public void setAlturaH(int alturaH) {
+        this.alturaH = alturaH;
+    }
+
+    //percentil que corresponde a la operacion de rango
+    public int getPercentil(Operacion operacion) {
+        return (operacion == Operacion.MEDIANA) ? 50 : percentil;
+    }
+
+    public void setPercentil(int percentil) {
+        if (percentil < 0 || percentil > 100) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 100");
+        }
+        this.percentil = percentil;
+    }
+
+    public OrdenColor getOrdenColor() {
+        return ordenColor;
+    }
+
+    //orden de color para erosion y dilatacion; null vuelve al minimo/maximo por canal
+    public void setOrdenColor(OrdenColor ordenColor) {
+        this.ordenColor = ordenColor;
+    }
+
+    public MotorMorfologia getMotor() {
+        return motor;
+    }
+
+    public void setMotor(MotorMorfologia motor) {
+        this.motor = motor;
+    }
+
     protected void setImagenResultado(BufferedImage imagen) {
         this.imagenResultado = imagen;
     }
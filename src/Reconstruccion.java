@@ -0,0 +1,292 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//reconstruccion morfologica (geodesica) por dilatacion y por erosion, y las operaciones que la usan:
+//relleno de huecos, eliminacion de objetos que tocan el borde y transformada h-maximos
+//en vez de dilatar el marcador una y otra vez hasta que no cambie, se usa el algoritmo hibrido
+//(pasada raster, pasada anti-raster y luego una cola FIFO), asi cada pixel se visita pocas veces
+//se trabaja por canal (R, G, B) igual que la erosion y dilatacion
+public class Reconstruccion {
+
+    //aplica una operacion de reconstruccion a los pixeles RGB de una imagen
+    //paralelo reparte la imagen entre sus hilos (franjas o tiles); con null se reconstruye en un solo bloque
+    public static int[] aplicar(Operacion operacion, int[] pixeles, int ancho, int alto,
+                                ElementoEstructurante elemento, int alturaH, MotorParalelo paralelo) {
+        int[] resultado = new int[pixeles.length];
+
+        for (int canal = 0; canal < 3; canal++) {
+            int desplazamiento = 16 - canal * 8; // R, G, B
+            int[] f = new int[pixeles.length];
+            for (int i = 0; i < pixeles.length; i++) {
+                f[i] = (pixeles[i] >> desplazamiento) & 0xFF;
+            }
+
+            int[] salida;
+            switch (operacion) {
+                case RELLENAR_HUECOS:
+                    salida = rellenarHuecos(f, ancho, alto, elemento, paralelo);
+                    break;
+                case ELIMINAR_BORDES:
+                    salida = eliminarBordes(f, ancho, alto, elemento, paralelo);
+                    break;
+                case H_MAXIMOS:
+                    salida = hMaximos(f, ancho, alto, elemento, alturaH, paralelo);
+                    break;
+                default:
+                    throw new IllegalArgumentException("La operación " + operacion + " no es de reconstrucción");
+            }
+
+            for (int i = 0; i < salida.length; i++) {
+                resultado[i] |= salida[i] << desplazamiento;
+            }
+        }
+        return resultado;
+    }
+
+    //rellena los huecos (minimos regionales que no tocan el borde)
+    //el marcador vale 255 en el interior y f en el borde, y se reconstruye por erosion sobre f
+    public static int[] rellenarHuecos(int[] f, int ancho, int alto, ElementoEstructurante elemento, MotorParalelo paralelo) {
+        int[] marcador = new int[f.length];
+        for (int y = 0; y < alto; y++) {
+            for (int x = 0; x < ancho; x++) {
+                int i = y * ancho + x;
+                marcador[i] = esBorde(x, y, ancho, alto) ? f[i] : 255;
+            }
+        }
+        return porErosion(marcador, f, ancho, alto, elemento, paralelo);
+    }
+
+    //quita los objetos claros que tocan el borde: f menos su reconstruccion desde el borde
+    public static int[] eliminarBordes(int[] f, int ancho, int alto, ElementoEstructurante elemento, MotorParalelo paralelo) {
+        int[] marcador = new int[f.length];
+        for (int y = 0; y < alto; y++) {
+            for (int x = 0; x < ancho; x++) {
+                int i = y * ancho + x;
+                marcador[i] = esBorde(x, y, ancho, alto) ? f[i] : 0;
+            }
+        }
+        int[] reconstruida = porDilatacion(marcador, f, ancho, alto, elemento, paralelo);
+        for (int i = 0; i < f.length; i++) {
+            reconstruida[i] = f[i] - reconstruida[i];
+        }
+        return reconstruida;
+    }
+
+    //transformada h-maximos: reconstruccion por dilatacion de (f - h) bajo f
+    //elimina los maximos con altura menor que h
+    public static int[] hMaximos(int[] f, int ancho, int alto, ElementoEstructurante elemento, int h, MotorParalelo paralelo) {
+        int[] marcador = new int[f.length];
+        for (int i = 0; i < f.length; i++) {
+            marcador[i] = Math.max(0, f[i] - h);
+        }
+        return porDilatacion(marcador, f, ancho, alto, elemento, paralelo);
+    }
+
+    //reconstruccion por erosion (marcador >= mascara), se resuelve complementando y reconstruyendo por dilatacion
+    public static int[] porErosion(int[] marcador, int[] mascara, int ancho, int alto,
+                                   ElementoEstructurante elemento, MotorParalelo paralelo) {
+        int[] marcadorInv = new int[marcador.length];
+        int[] mascaraInv = new int[mascara.length];
+        for (int i = 0; i < marcador.length; i++) {
+            marcadorInv[i] = 255 - marcador[i];
+            mascaraInv[i] = 255 - mascara[i];
+        }
+        int[] resultado = porDilatacion(marcadorInv, mascaraInv, ancho, alto, elemento, paralelo);
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = 255 - resultado[i];
+        }
+        return resultado;
+    }
+
+    //reconstruccion por dilatacion del marcador bajo la mascara (marcador <= mascara)
+    //en paralelo cada hilo reconstruye su franja o tile y se repiten rondas hasta que ningun bloque cambie,
+    //asi lo que se propaga a traves del limite entre bloques se recoge en la ronda siguiente
+    public static int[] porDilatacion(int[] marcador, int[] mascara, int ancho, int alto,
+                                      ElementoEstructurante elemento, MotorParalelo paralelo) {
+        int[] j = new int[marcador.length];
+        for (int i = 0; i < marcador.length; i++) {
+            j[i] = Math.min(marcador[i], mascara[i]);
+        }
+        Vecindad vecindad = new Vecindad(elemento);
+        int[] imagen = {0, 0, ancho, alto};
+
+        if (paralelo == null) {
+            reconstruirBloque(j, mascara, ancho, alto, imagen, vecindad);
+            return j;
+        }
+
+        boolean hayCambios = true;
+        while (hayCambios) {
+            AtomicBoolean cambio = new AtomicBoolean(false);
+            // los valores de j solo suben y nunca pasan la solucion, por eso leer
+            // los bloques vecinos mientras otro hilo los escribe no rompe el resultado
+            paralelo.ejecutar(imagen, bloque -> {
+                if (reconstruirBloque(j, mascara, ancho, alto, bloque, vecindad)) {
+                    cambio.set(true);
+                }
+            });
+            hayCambios = cambio.get();
+        }
+        return j;
+    }
+
+    //algoritmo hibrido sobre el bloque {x0, y0, x1, y1}; solo escribe dentro del bloque
+    //devuelve true si cambio algun pixel
+    private static boolean reconstruirBloque(int[] j, int[] mascara, int ancho, int alto,
+                                             int[] bloque, Vecindad v) {
+        int x0 = bloque[0], y0 = bloque[1], x1 = bloque[2], y1 = bloque[3];
+        boolean cambio = false;
+
+        // Pasada raster: cada pixel toma el maximo de los vecinos ya visitados (arriba/izquierda)
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                int p = y * ancho + x;
+                int max = j[p];
+                for (int k = 0; k < v.anteriores.length; k++) {
+                    int nx = x + v.dx[v.anteriores[k]];
+                    int ny = y + v.dy[v.anteriores[k]];
+                    if (nx >= 0 && nx < ancho && ny >= 0 && ny < alto) {
+                        max = Math.max(max, j[ny * ancho + nx]);
+                    }
+                }
+                max = Math.min(max, mascara[p]);
+                if (max != j[p]) {
+                    j[p] = max;
+                    cambio = true;
+                }
+            }
+        }
+
+        // Pasada anti-raster: lo mismo con los vecinos de abajo/derecha, y se encolan los pixeles
+        // que todavia pueden subir a algun vecino ya recorrido
+        ColaEnteros cola = new ColaEnteros();
+        for (int y = y1 - 1; y >= y0; y--) {
+            for (int x = x1 - 1; x >= x0; x--) {
+                int p = y * ancho + x;
+                int max = j[p];
+                for (int k = 0; k < v.posteriores.length; k++) {
+                    int nx = x + v.dx[v.posteriores[k]];
+                    int ny = y + v.dy[v.posteriores[k]];
+                    if (nx >= 0 && nx < ancho && ny >= 0 && ny < alto) {
+                        max = Math.max(max, j[ny * ancho + nx]);
+                    }
+                }
+                max = Math.min(max, mascara[p]);
+                if (max != j[p]) {
+                    j[p] = max;
+                    cambio = true;
+                }
+
+                // q = p - b depende de p; con b "anterior", q ya fue recorrido en esta pasada
+                for (int k = 0; k < v.anteriores.length; k++) {
+                    int qx = x - v.dx[v.anteriores[k]];
+                    int qy = y - v.dy[v.anteriores[k]];
+                    if (qx >= x0 && qx < x1 && qy >= y0 && qy < y1) {
+                        int q = qy * ancho + qx;
+                        if (j[q] < j[p] && j[q] < mascara[q]) {
+                            cola.agregar(p);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Propagacion con cola FIFO: solo se revisan los pixeles que todavia pueden cambiar
+        while (!cola.estaVacia()) {
+            int p = cola.sacar();
+            int x = p % ancho;
+            int y = p / ancho;
+            for (int k = 0; k < v.dx.length; k++) {
+                int qx = x - v.dx[k];
+                int qy = y - v.dy[k];
+                if (qx >= x0 && qx < x1 && qy >= y0 && qy < y1) {
+                    int q = qy * ancho + qx;
+                    if (j[q] < j[p] && j[q] != mascara[q]) {
+                        j[q] = Math.min(j[p], mascara[q]);
+                        cola.agregar(q);
+                        cambio = true;
+                    }
+                }
+            }
+        }
+
+        return cambio;
+    }
+
+    private static boolean esBorde(int x, int y, int ancho, int alto) {
+        return x == 0 || y == 0 || x == ancho - 1 || y == alto - 1;
+    }
+
+    //desplazamientos activos del elemento (sin el centro), separados segun el orden raster
+    private static class Vecindad {
+        final int[] dx;
+        final int[] dy;
+        final int[] anteriores;  // vecinos que quedan antes en orden raster (arriba o a la izquierda)
+        final int[] posteriores; // vecinos que quedan despues (abajo o a la derecha)
+
+        Vecindad(ElementoEstructurante elemento) {
+            int[][] desplazamientos = elemento.getDesplazamientos();
+            int total = 0;
+            int totalAnteriores = 0;
+            for (int i = 0; i < desplazamientos[0].length; i++) {
+                int ox = desplazamientos[0][i];
+                int oy = desplazamientos[1][i];
+                if (ox != 0 || oy != 0) {
+                    total++;
+                    if (oy < 0 || (oy == 0 && ox < 0)) totalAnteriores++;
+                }
+            }
+
+            dx = new int[total];
+            dy = new int[total];
+            anteriores = new int[totalAnteriores];
+            posteriores = new int[total - totalAnteriores];
+            int k = 0, a = 0, b = 0;
+            for (int i = 0; i < desplazamientos[0].length; i++) {
+                int ox = desplazamientos[0][i];
+                int oy = desplazamientos[1][i];
+                if (ox != 0 || oy != 0) {
+                    dx[k] = ox;
+                    dy[k] = oy;
+                    if (oy < 0 || (oy == 0 && ox < 0)) {
+                        anteriores[a++] = k;
+                    } else {
+                        posteriores[b++] = k;
+                    }
+                    k++;
+                }
+            }
+        }
+    }
+
+    //cola FIFO de enteros sobre un arreglo circular, para no crear un Integer por pixel
+    private static class ColaEnteros {
+        private int[] datos = new int[1024];
+        private int inicio = 0;
+        private int tamano = 0;
+
+        void agregar(int valor) {
+            if (tamano == datos.length) {
+                int[] nuevos = new int[datos.length * 2];
+                for (int i = 0; i < tamano; i++) {
+                    nuevos[i] = datos[(inicio + i) % datos.length];
+                }
+                datos = nuevos;
+                inicio = 0;
+            }
+            datos[(inicio + tamano) % datos.length] = valor;
+            tamano++;
+        }
+
+        int sacar() {
+            int valor = datos[inicio];
+            inicio = (inicio + 1) % datos.length;
+            tamano--;
+            return valor;
+        }
+
+        boolean estaVacia() {
+            return tamano == 0;
+        }
+    }
+}
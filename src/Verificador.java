@@ -0,0 +1,101 @@
+import java.util.Random;
+
+//compara un motor candidato contra el motor de referencia (MotorSecuencial)
+//en imagenes y elementos estructurantes aleatorios; informa cada pixel distinto y la velocidad relativa
+public class Verificador {
+
+    private static final int LADO_MAXIMO = 300; // las imagenes de prueba miden entre 1 y 300 pixeles por lado
+
+    //ejecuta las pruebas y devuelve true si el candidato coincide en todas
+    public static boolean verificar(MotorMorfologia candidato, int pruebas, long semilla) {
+        MotorMorfologia referencia = new MotorSecuencial();
+        Random random = new Random(semilla);
+
+        System.out.println("\n=== Verificación de motor ===");
+        System.out.println("Candidato: " + candidato.getNombre() + ", referencia: " + referencia.getNombre());
+        System.out.println("Pruebas: " + pruebas + ", semilla: " + semilla);
+
+        calentar(referencia, random);
+        calentar(candidato, random);
+
+        long tiempoReferencia = 0;
+        long tiempoCandidato = 0;
+        int pruebasConDiferencias = 0;
+
+        for (int prueba = 0; prueba < pruebas; prueba++) {
+            int ancho = 1 + random.nextInt(LADO_MAXIMO);
+            int alto = 1 + random.nextInt(LADO_MAXIMO);
+            int[] pixeles = new int[ancho * alto];
+            for (int i = 0; i < pixeles.length; i++) {
+                pixeles[i] = random.nextInt(1 << 24);
+            }
+            ElementoEstructurante elemento = elementoAleatorio(random);
+            Operacion operacion = random.nextBoolean() ? Operacion.EROSION : Operacion.DILATACION;
+
+            long inicio = System.nanoTime();
+            int[] esperado = referencia.aplicar(pixeles, ancho, alto, operacion, elemento);
+            tiempoReferencia += System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            int[] obtenido = candidato.aplicar(pixeles, ancho, alto, operacion, elemento);
+            tiempoCandidato += System.nanoTime() - inicio;
+
+            int diferencias = 0;
+            for (int i = 0; i < esperado.length; i++) {
+                if (esperado[i] != obtenido[i]) {
+                    if (diferencias == 0) {
+                        System.out.println("Prueba " + prueba + ": " + operacion + " " + ancho + "x" + alto
+                                + ", elemento caso " + elemento.getCaso() + " (" + elemento.getNombreCaso() + ")");
+                        elemento.imprimir();
+                    }
+                    if (diferencias < 10) {
+                        System.out.println(String.format("  píxel (%d, %d): esperado %06X, obtenido %06X",
+                                i % ancho, i / ancho, esperado[i], obtenido[i]));
+                    }
+                    diferencias++;
+                }
+            }
+            if (diferencias > 0) {
+                System.out.println("  total de píxeles distintos: " + diferencias);
+                pruebasConDiferencias++;
+            }
+        }
+
+        System.out.println("\n" + "=".repeat(50));
+        System.out.println("Pruebas con diferencias: " + pruebasConDiferencias + " de " + pruebas);
+        System.out.println("Tiempo referencia: " + (tiempoReferencia / 1000000) + " ms");
+        System.out.println("Tiempo candidato:  " + (tiempoCandidato / 1000000) + " ms");
+        System.out.println("Velocidad relativa: " + String.format("%.2f", (double) tiempoReferencia / tiempoCandidato) + "x");
+
+        return pruebasConDiferencias == 0;
+    }
+
+    //unas pasadas sin medir para que el JIT compile ambos motores antes de comparar tiempos
+    private static void calentar(MotorMorfologia motor, Random random) {
+        int[] pixeles = new int[LADO_MAXIMO * LADO_MAXIMO];
+        for (int i = 0; i < pixeles.length; i++) {
+            pixeles[i] = random.nextInt(1 << 24);
+        }
+        for (int i = 0; i < 5; i++) {
+            motor.aplicar(pixeles, LADO_MAXIMO, LADO_MAXIMO, Operacion.EROSION, new ElementoEstructurante(1 + i));
+        }
+    }
+
+    //la mitad de las veces uno de los casos 1-6, si no una forma aleatoria de hasta 5x5
+    private static ElementoEstructurante elementoAleatorio(Random random) {
+        if (random.nextBoolean()) {
+            return new ElementoEstructurante(1 + random.nextInt(6));
+        }
+
+        int alto = 1 + random.nextInt(5);
+        int ancho = 1 + random.nextInt(5);
+        int[][] matriz = new int[alto][ancho];
+        for (int y = 0; y < alto; y++) {
+            for (int x = 0; x < ancho; x++) {
+                matriz[y][x] = random.nextInt(2);
+            }
+        }
+        matriz[random.nextInt(alto)][random.nextInt(ancho)] = 1; // al menos una posicion activa
+        return new ElementoEstructurante(matriz, random.nextInt(ancho), random.nextInt(alto));
+    }
+}
\ No newline at end of file